@@ -0,0 +1,269 @@
+package com.video.processing.bench;
+
+import com.video.processing.common.RuntimeConfig;
+import com.video.processing.common.StageMetrics;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Local scaling benchmark. Generates (or reuses) a synthetic video, then for
+ * each worker count N launches a MasterNode JVM with N worker threads on
+ * localhost and reports end-to-end frames/s, per-stage latency percentiles,
+ * peak RSS and scaling efficiency relative to the smallest N.
+ *
+ * <p>MasterNode does not dispatch frames to WorkerNode processes yet, so
+ * worker slowdowns and kills are injected into the master's worker threads
+ * ({@code fault.*} keys). With {@code worker.jvms=true} N WorkerNode JVMs are
+ * also started; they sit idle, compete for CPU with the master, and their RSS
+ * is reported separately as idle-process overhead, not as part of the scaling
+ * result.
+ *
+ * <p>Options are {@code --key=value}: {@code workers=1,2,4}, {@code width},
+ * {@code height}, {@code frames}, {@code fps}, {@code motion}, {@code video}
+ * (use an existing file), {@code out}, {@code worker.jvms}, {@code slow.workers},
+ * {@code slow.ms}, {@code kill.workers}, {@code kill.after.frames},
+ * {@code autotune}, {@code jvm.opts} and {@code timeout.s}.
+ */
+public class ClusterHarness {
+    private static final Logger logger = Logger.getLogger(ClusterHarness.class.getName());
+
+    private final Properties options;
+    private final File outputDir;
+    private final String javaBin = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    private final String classPath = System.getProperty("java.class.path");
+
+    public ClusterHarness(Properties options) {
+        this.options = options;
+        this.outputDir = new File(options.getProperty("out", "bench-output"));
+    }
+
+    public List<RunResult> run() throws Exception {
+        File video = prepareVideo();
+        List<RunResult> results = new ArrayList<>();
+        for (int numWorkers : workerCounts()) {
+            results.add(runOnce(numWorkers, video));
+        }
+        report(results);
+        return results;
+    }
+
+    /**
+     * Parses the comma-separated {@code workers} option, validating each count
+     * the same way {@link RuntimeConfig} validates a single integer setting.
+     */
+    List<Integer> workerCounts() {
+        List<Integer> counts = new ArrayList<>();
+        for (String token : options.getProperty("workers", "1,2,4").split(",")) {
+            Properties single = new Properties();
+            single.setProperty("workers", token);
+            counts.add(RuntimeConfig.intValue(single, "workers", 1, 1));
+        }
+        return counts;
+    }
+
+    private File prepareVideo() throws Exception {
+        String existing = options.getProperty("video");
+        if (existing != null) {
+            return new File(existing);
+        }
+        int width = intOption("width", 640);
+        int height = intOption("height", 360);
+        int frames = intOption("frames", 300);
+        int fps = intOption("fps", 30);
+        int motion = intOption("motion", 4);
+
+        File video = new File(outputDir, String.format("synthetic_%dx%d_%df_%dfps_m%d.mp4", width, height, frames, fps, motion));
+        if (!video.isFile()) {
+            logger.log(Level.INFO, "Generating {0}", video);
+            new SyntheticVideoGenerator(width, height, frames, fps, motion).generate(video);
+        }
+        return video;
+    }
+
+    private RunResult runOnce(int numWorkers, File video) throws Exception {
+        File runDir = new File(outputDir, "run-" + numWorkers);
+        if (!runDir.exists() && !runDir.mkdirs()) {
+            throw new IOException("Could not create directory: " + runDir);
+        }
+        File metricsFile = new File(runDir, "metrics.properties");
+        metricsFile.delete();
+
+        // Killing every worker would stall the job, so always leave one alive
+        int killWorkers = Math.min(intOption("kill.workers", 0), numWorkers - 1);
+
+        List<Process> workers = new ArrayList<>();
+        if (Boolean.parseBoolean(options.getProperty("worker.jvms", "false"))) {
+            for (int i = 0; i < numWorkers; i++) {
+                workers.add(launch("com.video.processing.worker.WorkerNode", new File(runDir, "worker-" + i + ".log")));
+            }
+        }
+
+        RunResult result;
+        try {
+            List<String> masterArgs = new ArrayList<>();
+            masterArgs.add("--workers=" + numWorkers);
+            masterArgs.add("--metrics.file=" + metricsFile.getAbsolutePath());
+            masterArgs.add("--output.path=" + runDir.getAbsolutePath());
+            masterArgs.add("--fault.kill.workers=" + killWorkers);
+            masterArgs.add("--fault.kill.after.frames=" + intOption("kill.after.frames", 0));
+            masterArgs.add("--fault.slow.workers=" + intOption("slow.workers", 0));
+            masterArgs.add("--fault.slow.ms=" + intOption("slow.ms", 0));
+            if (Boolean.parseBoolean(options.getProperty("autotune", "false"))) {
+                masterArgs.add("--autotune");
+            }
+            masterArgs.add(video.getAbsolutePath());
+
+            logger.log(Level.INFO, "Run N={0}: master + {1} idle worker JVMs", new Object[]{numWorkers, workers.size()});
+            long start = System.nanoTime();
+            Process master = launch("com.video.processing.master.MasterNode", new File(runDir, "master.log"),
+                    masterArgs.toArray(new String[0]));
+            if (!master.waitFor(intOption("timeout.s", 600), TimeUnit.SECONDS)) {
+                master.destroyForcibly();
+                throw new IllegalStateException("Master timed out for N=" + numWorkers + ", see " + runDir);
+            }
+            long wallMs = (System.nanoTime() - start) / 1_000_000;
+            if (!metricsFile.isFile()) {
+                throw new IllegalStateException("Master produced no metrics for N=" + numWorkers + ", see " + runDir);
+            }
+
+            long workerRssKb = 0;
+            for (Process worker : workers) {
+                workerRssKb += Math.max(0, StageMetrics.peakRssKb(Long.toString(worker.pid())));
+            }
+            result = new RunResult(numWorkers, wallMs, load(metricsFile), workerRssKb);
+        } finally {
+            for (Process worker : workers) {
+                worker.destroyForcibly();
+            }
+        }
+        return result;
+    }
+
+    private Process launch(String mainClass, File log, String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(javaBin);
+        for (String opt : options.getProperty("jvm.opts", "").trim().split("\\s+")) {
+            if (!opt.isEmpty()) {
+                command.add(opt);
+            }
+        }
+        command.add("-cp");
+        command.add(classPath);
+        command.add(mainClass);
+        for (String arg : args) {
+            command.add(arg);
+        }
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+    }
+
+    private void report(List<RunResult> results) throws IOException {
+        if (results.isEmpty()) {
+            return;
+        }
+        RunResult base = results.get(0);
+        for (RunResult r : results) {
+            if (r.numWorkers < base.numWorkers) {
+                base = r; // Efficiency is relative to the smallest N, whatever the run order
+            }
+        }
+        double baseFpsPerWorker = base.getFps() / base.numWorkers;
+
+        StringBuilder header = new StringBuilder("workers,frames,wall_ms,fps,efficiency,master_rss_mb,idle_worker_jvm_rss_mb");
+        String[] stages = {StageMetrics.READ, StageMetrics.ENQUEUE, StageMetrics.QUEUE, StageMetrics.PROCESS, StageMetrics.ENCODE};
+        for (String stage : stages) {
+            for (double p : StageMetrics.PERCENTILES) {
+                header.append(',').append(stage).append("_p").append((int) p).append("_ms");
+            }
+        }
+
+        File csv = new File(outputDir, "summary.csv");
+        try (PrintWriter out = new PrintWriter(csv)) {
+            out.println(header);
+            System.out.printf("%7s %7s %9s %10s %12s %12s %16s%n",
+                    "workers", "frames", "fps", "efficiency", "master RSS", "process p99", "idle JVM RSS");
+            for (RunResult r : results) {
+                double efficiency = baseFpsPerWorker > 0 ? r.getFps() / r.numWorkers / baseFpsPerWorker : 0;
+                StringBuilder row = new StringBuilder(String.format(Locale.ROOT, "%d,%d,%d,%.3f,%.3f,%.1f,%.1f",
+                        r.numWorkers, r.getFrames(), r.wallMs, r.getFps(), efficiency,
+                        r.getMasterRssKb() / 1024.0, r.workerRssKb / 1024.0));
+                for (String stage : stages) {
+                    for (double p : StageMetrics.PERCENTILES) {
+                        row.append(',').append(r.getStagePercentile(stage, p));
+                    }
+                }
+                out.println(row);
+                System.out.printf(Locale.ROOT, "%7d %7d %9.2f %9.0f%% %9.1f MB %9s ms %13s%n",
+                        r.numWorkers, r.getFrames(), r.getFps(), efficiency * 100, r.getMasterRssKb() / 1024.0,
+                        r.getStagePercentile(StageMetrics.PROCESS, 99),
+                        r.workerRssKb > 0 ? String.format(Locale.ROOT, "%.1f MB", r.workerRssKb / 1024.0) : "-");
+            }
+        }
+        logger.log(Level.INFO, "Wrote {0}", csv.getAbsolutePath());
+    }
+
+    private int intOption(String key, int defaultValue) {
+        return RuntimeConfig.intValue(options, key, defaultValue, 0);
+    }
+
+    private static Properties load(File file) throws IOException {
+        Properties props = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            props.load(in);
+        }
+        return props;
+    }
+
+    /**
+     * Metrics for one benchmark run at a given worker count.
+     */
+    public static class RunResult {
+        private final int numWorkers;
+        private final long wallMs;
+        private final Properties metrics;
+        private final long workerRssKb; // Idle WorkerNode JVMs, overhead only
+
+        RunResult(int numWorkers, long wallMs, Properties metrics, long workerRssKb) {
+            this.numWorkers = numWorkers;
+            this.wallMs = wallMs;
+            this.metrics = metrics;
+            this.workerRssKb = workerRssKb;
+        }
+
+        // Getters
+        public int getNumWorkers() { return numWorkers; }
+        public long getWallMs() { return wallMs; }
+        public long getWorkerRssKb() { return workerRssKb; }
+        public long getFrames() { return Long.parseLong(metrics.getProperty("frames", "0")); }
+        public double getFps() { return Double.parseDouble(metrics.getProperty("fps", "0")); }
+        public long getMasterRssKb() { return Long.parseLong(metrics.getProperty("peak.rss.kb", "-1")); }
+
+        public String getStagePercentile(String stage, double percentile) {
+            return metrics.getProperty(String.format("stage.%s.p%d.ms", stage, (int) percentile), "");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> positional = new ArrayList<>();
+        Properties options = RuntimeConfig.parseArguments(args, positional);
+        if (!positional.isEmpty()) {
+            System.err.println("Usage: ClusterHarness [--key=value ...]");
+            return;
+        }
+        new ClusterHarness(options).run();
+    }
+}
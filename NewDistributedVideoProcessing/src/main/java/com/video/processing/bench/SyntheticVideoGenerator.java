@@ -0,0 +1,133 @@
+package com.video.processing.bench;
+
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.Random;
+
+/**
+ * Generates deterministic test videos of configurable resolution, length and
+ * motion. Motion is the number of pixels the scene content moves per frame;
+ * 0 produces a static scene that compresses to almost nothing, larger values
+ * produce more inter-frame change for the encoder and operators to handle.
+ */
+public class SyntheticVideoGenerator {
+    private static final int NUM_SHAPES = 8;
+
+    private final int width;
+    private final int height;
+    private final int numFrames;
+    private final double frameRate;
+    private final int motion;
+
+    public SyntheticVideoGenerator(int width, int height, int numFrames, double frameRate, int motion) {
+        if (width < 16 || height < 16 || width % 2 != 0 || height % 2 != 0) {
+            throw new IllegalArgumentException("Resolution must be even and at least 16x16: " + width + "x" + height);
+        }
+        if (numFrames < 1 || frameRate <= 0 || motion < 0) {
+            throw new IllegalArgumentException("Invalid frames/fps/motion: " + numFrames + "/" + frameRate + "/" + motion);
+        }
+        this.width = width;
+        this.height = height;
+        this.numFrames = numFrames;
+        this.frameRate = frameRate;
+        this.motion = motion;
+    }
+
+    public File generate(File output) throws Exception {
+        File parent = output.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IllegalStateException("Could not create directory: " + parent);
+        }
+
+        // Fixed seed so every run of a benchmark sees the same content
+        Random random = new Random(42);
+        int[][] shapes = new int[NUM_SHAPES][6]; // x, y, size, dx, dy, rgb
+        for (int[] shape : shapes) {
+            shape[0] = random.nextInt(width);
+            shape[1] = random.nextInt(height);
+            shape[2] = Math.max(8, Math.min(width, height) / (4 + random.nextInt(8)));
+            shape[3] = random.nextBoolean() ? 1 : -1;
+            shape[4] = random.nextBoolean() ? 1 : -1;
+            shape[5] = random.nextInt(0xFFFFFF);
+        }
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        Java2DFrameConverter converter = new Java2DFrameConverter();
+        FFmpegFrameRecorder recorder = new FFmpegFrameRecorder(output.getPath(), width, height);
+        recorder.setVideoCodec(avcodec.AV_CODEC_ID_H264);
+        recorder.setPixelFormat(avutil.AV_PIX_FMT_YUV420P);
+        recorder.setFrameRate(frameRate);
+        recorder.setFormat("mp4");
+
+        try {
+            recorder.start();
+            for (int i = 0; i < numFrames; i++) {
+                drawFrame(image, shapes, i);
+                Frame frame = converter.convert(image);
+                recorder.record(frame);
+            }
+        } finally {
+            recorder.stop();
+            recorder.release();
+        }
+        return output;
+    }
+
+    private void drawFrame(BufferedImage image, int[][] shapes, int index) {
+        Graphics2D g = image.createGraphics();
+        try {
+            // Background gradient scrolls with the motion setting
+            int offset = (index * motion) % (2 * width);
+            g.setPaint(new GradientPaint(-offset, 0, Color.DARK_GRAY, width * 2 - offset, height, Color.LIGHT_GRAY, true));
+            g.fillRect(0, 0, width, height);
+
+            for (int[] shape : shapes) {
+                int x = bounce(shape[0] + shape[3] * index * motion, width - shape[2]);
+                int y = bounce(shape[1] + shape[4] * index * motion, height - shape[2]);
+                g.setColor(new Color(shape[5]));
+                g.fillOval(x, y, shape[2], shape[2]);
+            }
+
+            g.setColor(Color.WHITE);
+            g.setFont(new Font(Font.MONOSPACED, Font.BOLD, Math.max(10, height / 20)));
+            g.drawString("frame " + index, 8, height - 8);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // Reflects a position into [0, limit] so shapes bounce off the edges
+    static int bounce(int position, int limit) {
+        if (limit <= 0) {
+            return 0;
+        }
+        int period = 2 * limit;
+        int p = Math.floorMod(position, period);
+        return p <= limit ? p : period - p;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: SyntheticVideoGenerator <output.mp4> [width height frames fps motion]");
+            return;
+        }
+        int width = args.length > 1 ? Integer.parseInt(args[1]) : 640;
+        int height = args.length > 2 ? Integer.parseInt(args[2]) : 360;
+        int frames = args.length > 3 ? Integer.parseInt(args[3]) : 300;
+        double fps = args.length > 4 ? Double.parseDouble(args[4]) : 30;
+        int motion = args.length > 5 ? Integer.parseInt(args[5]) : 4;
+
+        File output = new SyntheticVideoGenerator(width, height, frames, fps, motion).generate(new File(args[0]));
+        System.out.println("Generated " + output.getAbsolutePath());
+    }
+}
@@ -0,0 +1,278 @@
+package com.video.processing.common;
+
+import org.bytedeco.javacpp.Pointer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Adjusts a set of integer {@link Knob}s while a job runs.
+ *
+ * <p>Each interval the tuner measures throughput and average latency from
+ * {@link #recordFrame(long)}. Knobs are hill-climbed one at a time: a step is
+ * kept if throughput improves, otherwise it is reverted and the direction
+ * flipped. When heap or native frame memory exceeds the configured limit, or
+ * latency exceeds its ceiling, every memory-bound knob is halved (AIMD), but
+ * never below the value it had when it was added. A further memory back-off
+ * only happens if usage has grown since the previous one; while usage stays
+ * above the limit, hill-climbing continues but memory-bound knobs may not grow.
+ *
+ * <p>Memory-bound knobs only bound frames that are in flight (queued or
+ * batched). Memory retained by the caller outside those knobs, such as the
+ * master's processed frames awaiting reconstruction, is not limited by the tuner.
+ */
+public class AutoTuner {
+    private static final Logger logger = Logger.getLogger(AutoTuner.class.getName());
+
+    private static final double MIN_GAIN = 0.02; // Required relative throughput gain to keep a step
+    private static final double MEMORY_GROWTH = 0.02; // Relative memory growth required before another memory back-off
+
+    private final long intervalMs;
+    private final double memoryLimit;
+    private final long maxLatencyMs;
+    private final DoubleSupplier memoryUsage;
+    private final List<Knob> knobs = new ArrayList<>();
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder latencySumMs = new LongAdder();
+    private ScheduledExecutorService scheduler;
+
+    // Hill-climbing state, only touched by the scheduler thread
+    private long lastTickNanos;
+    private double baseline = -1;
+    private int knobIndex;
+    private Knob trialKnob;
+    private int trialPrevious;
+    private double backOffMemory = -1; // Memory usage at the last memory back-off
+
+    public AutoTuner(long intervalMs, double memoryLimit, long maxLatencyMs) {
+        this(intervalMs, memoryLimit, maxLatencyMs, AutoTuner::currentMemoryUsage);
+    }
+
+    AutoTuner(long intervalMs, double memoryLimit, long maxLatencyMs, DoubleSupplier memoryUsage) {
+        this.intervalMs = intervalMs;
+        this.memoryLimit = memoryLimit;
+        this.maxLatencyMs = maxLatencyMs;
+        this.memoryUsage = memoryUsage;
+    }
+
+    public AutoTuner(RuntimeConfig config) {
+        this(config.getAutoTuneIntervalMs(), config.getMemoryLimit(), config.getMaxLatencyMs());
+    }
+
+    /**
+     * Adds a knob. Its current value becomes the floor for back-offs.
+     */
+    public AutoTuner addKnob(Knob knob) {
+        knob.floor = knob.get();
+        knobs.add(knob);
+        return this;
+    }
+
+    /**
+     * Records one completed frame and its end-to-end latency.
+     */
+    public void recordFrame(long latencyMs) {
+        frames.increment();
+        latencySumMs.add(Math.max(0, latencyMs));
+    }
+
+    public synchronized void start() {
+        if (scheduler != null || knobs.isEmpty()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "auto-tuner");
+            t.setDaemon(true);
+            return t;
+        });
+        lastTickNanos = System.nanoTime();
+        scheduler.scheduleAtFixedRate(this::safeTick, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        logger.log(Level.INFO, "Auto-tuner started with {0} knobs, interval {1}ms", new Object[]{knobs.size(), intervalMs});
+    }
+
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+        logger.log(Level.INFO, "Auto-tuner stopped");
+    }
+
+    private void safeTick() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Auto-tuner tick failed", e);
+        }
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        double elapsedSec = (now - lastTickNanos) / 1e9;
+        lastTickNanos = now;
+
+        long count = frames.sumThenReset();
+        long latencySum = latencySumMs.sumThenReset();
+        double throughput = elapsedSec > 0 ? count / elapsedSec : 0;
+        double avgLatency = count > 0 ? (double) latencySum / count : 0;
+
+        evaluate(count, throughput, avgLatency, memoryUsage.getAsDouble());
+    }
+
+    /**
+     * Makes one tuning decision from the measurements of the last interval.
+     */
+    void evaluate(long count, double throughput, double avgLatency, double memory) {
+        boolean memoryPressure = memory > memoryLimit;
+        if (!memoryPressure) {
+            backOffMemory = -1;
+        } else if (backOffMemory < 0 || memory > backOffMemory * (1 + MEMORY_GROWTH)) {
+            backOffMemory = memory;
+            String reason = String.format("memory %.0f%% > %.0f%%", memory * 100, memoryLimit * 100);
+            if (backOff(reason, throughput, avgLatency)) {
+                return;
+            }
+        }
+        if (maxLatencyMs > 0 && avgLatency > maxLatencyMs) {
+            if (backOff("latency " + Math.round(avgLatency) + "ms > " + maxLatencyMs + "ms", throughput, avgLatency)) {
+                return;
+            }
+        }
+        if (count == 0) {
+            return; // No signal (e.g. pipeline not started or draining)
+        }
+
+        if (trialKnob != null) {
+            Knob knob = trialKnob;
+            trialKnob = null;
+            if (throughput >= baseline * (1 + MIN_GAIN)) {
+                baseline = throughput;
+            } else {
+                adjust(knob, trialPrevious, "reverted, no gain", throughput, avgLatency);
+                knob.direction = -knob.direction;
+                knobIndex = (knobIndex + 1) % knobs.size();
+                baseline = -1; // Re-measure before the next step
+                return;
+            }
+        } else {
+            baseline = throughput;
+        }
+        step(throughput, avgLatency, memoryPressure);
+    }
+
+    private void step(double throughput, double avgLatency, boolean memoryPressure) {
+        for (int attempts = 0; attempts < knobs.size() * 2; attempts++) {
+            Knob knob = knobs.get(knobIndex);
+            int current = knob.get();
+            int delta = Math.max(1, current / 4);
+            int next = clamp(knob, current + knob.direction * delta);
+            boolean blocked = memoryPressure && knob.memoryBound && next > current;
+            if (next != current && !blocked) {
+                trialKnob = knob;
+                trialPrevious = current;
+                adjust(knob, next, "hill-climb", throughput, avgLatency);
+                return;
+            }
+            // At a bound: try the other direction next time, move on to the next knob
+            knob.direction = -knob.direction;
+            knobIndex = (knobIndex + 1) % knobs.size();
+        }
+    }
+
+    /**
+     * Halves every memory-bound knob down to its floor. Returns false if
+     * nothing could be reduced, so the caller can keep hill-climbing.
+     */
+    private boolean backOff(String reason, double throughput, double avgLatency) {
+        boolean changed = false;
+        if (trialKnob != null) {
+            adjust(trialKnob, trialPrevious, "reverted, " + reason, throughput, avgLatency);
+            trialKnob = null;
+            changed = true;
+        }
+        for (Knob knob : knobs) {
+            if (knob.memoryBound) {
+                int current = knob.get();
+                int next = Math.max(Math.min(knob.floor, current), clamp(knob, current / 2));
+                if (next != current) {
+                    adjust(knob, next, reason, throughput, avgLatency);
+                    changed = true;
+                }
+                knob.direction = -1;
+            }
+        }
+        if (changed) {
+            baseline = -1;
+        }
+        return changed;
+    }
+
+    private void adjust(Knob knob, int value, String reason, double throughput, double avgLatency) {
+        int previous = knob.get();
+        knob.set(value);
+        logger.log(Level.INFO, String.format("Auto-tune %s: %d -> %d (%s, %.1f frames/s, %.0fms avg latency)",
+                knob.name, previous, value, reason, throughput, avgLatency));
+    }
+
+    /**
+     * Fraction (0-1) of heap or JavaCPP native memory in use, whichever is higher.
+     */
+    private static double currentMemoryUsage() {
+        Runtime rt = Runtime.getRuntime();
+        double heap = (double) (rt.totalMemory() - rt.freeMemory()) / rt.maxMemory();
+        // Frames are held in native memory tracked by JavaCPP
+        long maxNative = Pointer.maxBytes();
+        double nativeUsage = maxNative > 0 ? (double) Pointer.totalBytes() / maxNative : 0;
+        return Math.max(heap, nativeUsage);
+    }
+
+    private static int clamp(Knob knob, int value) {
+        return Math.max(knob.min, Math.min(knob.max, value));
+    }
+
+    /**
+     * A tunable integer setting with inclusive bounds. Memory-bound knobs
+     * (queue depth, batch size) are the ones reduced under memory pressure.
+     */
+    public static class Knob {
+        private final String name;
+        private final int min;
+        private final int max;
+        private final boolean memoryBound;
+        private final IntSupplier getter;
+        private final IntConsumer setter;
+        private int direction = 1;
+        private int floor;
+
+        public Knob(String name, int min, int max, boolean memoryBound, IntSupplier getter, IntConsumer setter) {
+            if (min < 1 || max < min) {
+                throw new IllegalArgumentException("Invalid bounds for " + name + ": [" + min + ", " + max + "]");
+            }
+            this.name = name;
+            this.min = min;
+            this.max = max;
+            this.memoryBound = memoryBound;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        public String getName() { return name; }
+        public int get() { return getter.getAsInt(); }
+        public void set(int value) { setter.accept(value); }
+    }
+}
@@ -1,10 +1,15 @@
 package com.video.processing.common;
 
+/**
+ * Compile-time defaults. Use {@link RuntimeConfig} to override them per run.
+ */
 public class Config {
     public static final String MASTER_HOST = "localhost";
     public static final int MASTER_PORT = 8000;
     public static final int NUM_WORKERS = 4; // Number of worker nodes
     public static final int FRAME_BATCH_SIZE = 30; // Frames per batch
+    public static final int FRAME_QUEUE_CAPACITY = 50; // Max frames held in memory by the master
+    public static final int WORKER_THREADS = 4; // Threads per worker node
     public static final String VIDEO_INPUT_PATH = "./input/";
     public static final String VIDEO_OUTPUT_PATH = "C:\\Users\\mthok\\Downloads\\Video\\";
 
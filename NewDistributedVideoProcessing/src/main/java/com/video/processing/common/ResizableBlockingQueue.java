@@ -0,0 +1,147 @@
+package com.video.processing.common;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded FIFO queue whose capacity can be changed while producers and
+ * consumers are running. Shrinking never drops elements; producers simply
+ * block until the queue has drained below the new capacity.
+ *
+ * <p>Once {@link #close() closed}, no more items are accepted and
+ * {@link #poll(long, TimeUnit)} returns null as soon as the queue is empty,
+ * so consumers finish without waiting out their timeout.
+ */
+public class ResizableBlockingQueue<E> {
+    private final Deque<E> items = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private int capacity;
+    private boolean closed;
+
+    public ResizableBlockingQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    public void put(E item) throws InterruptedException {
+        if (item == null) {
+            throw new NullPointerException("Queue does not accept null elements");
+        }
+        lock.lockInterruptibly();
+        try {
+            while (items.size() >= capacity && !closed) {
+                notFull.await();
+            }
+            if (closed) {
+                throw new IllegalStateException("Queue is closed");
+            }
+            items.addLast(item);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (items.isEmpty()) {
+                if (closed || nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            E item = items.pollFirst();
+            notFull.signal();
+            return item;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves up to {@code maxElements} queued items into {@code target} without blocking.
+     */
+    public int drainTo(Collection<? super E> target, int maxElements) {
+        lock.lock();
+        try {
+            int n = 0;
+            while (n < maxElements && !items.isEmpty()) {
+                target.add(items.pollFirst());
+                n++;
+            }
+            if (n > 0) {
+                notFull.signalAll();
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting items and wakes every waiting consumer and producer.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * True once the queue is closed and every item has been taken.
+     */
+    public boolean isDrained() {
+        lock.lock();
+        try {
+            return closed && items.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return items.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        lock.lock();
+        try {
+            return capacity;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        lock.lock();
+        try {
+            this.capacity = capacity;
+            notFull.signalAll(); // Growing may unblock waiting producers
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.video.processing.common;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Runtime configuration resolved from, in increasing order of precedence:
+ * the {@link Config} defaults, a properties file, {@code video.*} system
+ * properties and {@code --key=value} command line arguments.
+ *
+ * <p>The properties file is taken from {@code --config=<path>}, the
+ * {@code video.config} system property, or {@code ./video-processing.properties}
+ * when present.
+ */
+public class RuntimeConfig {
+    public static final String SYSTEM_PROPERTY_PREFIX = "video.";
+    public static final String DEFAULT_CONFIG_FILE = "video-processing.properties";
+
+    // Property keys
+    public static final String MASTER_HOST = "master.host";
+    public static final String MASTER_PORT = "master.port";
+    public static final String NUM_WORKERS = "workers";
+    public static final String WORKER_THREADS = "worker.threads";
+    public static final String FRAME_BATCH_SIZE = "batch.size";
+    public static final String FRAME_QUEUE_CAPACITY = "queue.capacity";
+    public static final String VIDEO_INPUT_PATH = "input.path";
+    public static final String VIDEO_OUTPUT_PATH = "output.path";
+    public static final String AUTO_TUNE = "autotune";
+    public static final String AUTO_TUNE_INTERVAL_MS = "autotune.interval.ms";
+    public static final String AUTO_TUNE_MAX_WORKERS = "autotune.max.workers";
+    public static final String AUTO_TUNE_MAX_WORKER_THREADS = "autotune.max.worker.threads";
+    public static final String AUTO_TUNE_MAX_BATCH_SIZE = "autotune.max.batch.size";
+    public static final String AUTO_TUNE_MAX_QUEUE_CAPACITY = "autotune.max.queue.capacity";
+    public static final String AUTO_TUNE_MAX_LATENCY_MS = "autotune.max.latency.ms";
+    public static final String AUTO_TUNE_MEMORY_LIMIT = "autotune.memory.limit";
+    public static final String METRICS_FILE = "metrics.file";
+    public static final String FAULT_SLOW_WORKERS = "fault.slow.workers";
+    public static final String FAULT_SLOW_MS = "fault.slow.ms";
+    public static final String FAULT_KILL_WORKERS = "fault.kill.workers";
+    public static final String FAULT_KILL_AFTER_FRAMES = "fault.kill.after.frames";
+
+    private static final String CONFIG_FILE = "config";
+
+    private final String masterHost;
+    private final int masterPort;
+    private final int numWorkers;
+    private final int workerThreads;
+    private final int frameBatchSize;
+    private final int frameQueueCapacity;
+    private final String videoInputPath;
+    private final String videoOutputPath;
+    private final boolean autoTune;
+    private final long autoTuneIntervalMs;
+    private final int maxWorkers;
+    private final int maxWorkerThreads;
+    private final int maxBatchSize;
+    private final int maxQueueCapacity;
+    private final long maxLatencyMs;
+    private final double memoryLimit;
+    private final String metricsFile;
+    private final int faultSlowWorkers;
+    private final int faultSlowMs;
+    private final int faultKillWorkers;
+    private final int faultKillAfterFrames;
+    private final List<String> arguments;
+
+    private RuntimeConfig(Properties props, List<String> arguments) {
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        this.masterHost = props.getProperty(MASTER_HOST, Config.MASTER_HOST);
+        this.masterPort = intValue(props, MASTER_PORT, Config.MASTER_PORT, 1);
+        this.numWorkers = intValue(props, NUM_WORKERS, Config.NUM_WORKERS, 1);
+        this.workerThreads = intValue(props, WORKER_THREADS, Config.WORKER_THREADS, 1);
+        // Master batching stays off unless configured; Config.FRAME_BATCH_SIZE only caps the tuner
+        this.frameBatchSize = intValue(props, FRAME_BATCH_SIZE, 1, 1);
+        this.frameQueueCapacity = intValue(props, FRAME_QUEUE_CAPACITY, Config.FRAME_QUEUE_CAPACITY, 1);
+        this.videoInputPath = props.getProperty(VIDEO_INPUT_PATH, Config.VIDEO_INPUT_PATH);
+        this.videoOutputPath = props.getProperty(VIDEO_OUTPUT_PATH, Config.VIDEO_OUTPUT_PATH);
+        this.autoTune = Boolean.parseBoolean(props.getProperty(AUTO_TUNE, "false").trim());
+        this.autoTuneIntervalMs = intValue(props, AUTO_TUNE_INTERVAL_MS, 2000, 100);
+        this.maxWorkers = intValue(props, AUTO_TUNE_MAX_WORKERS, Math.max(numWorkers, cores * 2), numWorkers);
+        this.maxWorkerThreads = intValue(props, AUTO_TUNE_MAX_WORKER_THREADS, Math.max(workerThreads, cores * 2), workerThreads);
+        this.maxBatchSize = intValue(props, AUTO_TUNE_MAX_BATCH_SIZE, Math.max(frameBatchSize, Config.FRAME_BATCH_SIZE), frameBatchSize);
+        this.maxQueueCapacity = intValue(props, AUTO_TUNE_MAX_QUEUE_CAPACITY, frameQueueCapacity * 4, frameQueueCapacity);
+        this.maxLatencyMs = intValue(props, AUTO_TUNE_MAX_LATENCY_MS, 0, 0);
+        this.memoryLimit = fractionValue(props, AUTO_TUNE_MEMORY_LIMIT, 0.75);
+        this.metricsFile = props.getProperty(METRICS_FILE);
+        this.faultSlowWorkers = intValue(props, FAULT_SLOW_WORKERS, 0, 0);
+        this.faultSlowMs = intValue(props, FAULT_SLOW_MS, 0, 0);
+        this.faultKillWorkers = intValue(props, FAULT_KILL_WORKERS, 0, 0);
+        this.faultKillAfterFrames = intValue(props, FAULT_KILL_AFTER_FRAMES, 0, 0);
+        if (faultKillWorkers > 0 && faultKillWorkers >= numWorkers) {
+            // With no consumer left the reader would block on a full queue forever
+            throw new IllegalArgumentException("'" + FAULT_KILL_WORKERS + "' must be less than '"
+                    + NUM_WORKERS + "' (" + numWorkers + ") but was " + faultKillWorkers);
+        }
+        this.arguments = Collections.unmodifiableList(arguments);
+    }
+
+    /**
+     * Loads configuration with no command line arguments.
+     */
+    public static RuntimeConfig load() throws IOException {
+        return load(new String[0]);
+    }
+
+    /**
+     * Loads configuration, treating {@code --key=value} arguments as overrides
+     * and any other argument as positional (see {@link #getArguments()}).
+     */
+    public static RuntimeConfig load(String[] args) throws IOException {
+        List<String> positional = new ArrayList<>();
+        Properties cli = parseArguments(args, positional);
+
+        Properties system = new Properties();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(SYSTEM_PROPERTY_PREFIX)) {
+                system.setProperty(name.substring(SYSTEM_PROPERTY_PREFIX.length()), System.getProperty(name));
+            }
+        }
+
+        Properties merged = new Properties();
+        String configFile = cli.getProperty(CONFIG_FILE, system.getProperty(CONFIG_FILE));
+        if (configFile != null) {
+            merged.putAll(readFile(new File(configFile)));
+        } else if (new File(DEFAULT_CONFIG_FILE).isFile()) {
+            merged.putAll(readFile(new File(DEFAULT_CONFIG_FILE)));
+        }
+        merged.putAll(system);
+        merged.putAll(cli);
+
+        return new RuntimeConfig(merged, positional);
+    }
+
+    /**
+     * Parses {@code --key=value} and bare {@code --flag} arguments into properties,
+     * adding any other argument to {@code positional}.
+     */
+    public static Properties parseArguments(String[] args, List<String> positional) {
+        Properties cli = new Properties();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                int eq = arg.indexOf('=');
+                if (eq < 0) {
+                    cli.setProperty(arg.substring(2), "true"); // Bare flag, e.g. --autotune
+                } else {
+                    cli.setProperty(arg.substring(2, eq), arg.substring(eq + 1));
+                }
+            } else {
+                positional.add(arg);
+            }
+        }
+        return cli;
+    }
+
+    private static Properties readFile(File file) throws IOException {
+        Properties props = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            props.load(in);
+        }
+        return props;
+    }
+
+    /**
+     * Reads an integer property, throwing {@link IllegalArgumentException} if it is malformed or below {@code min}.
+     */
+    public static int intValue(Properties props, String key, int defaultValue, int min) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        int parsed;
+        try {
+            parsed = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid integer for '" + key + "': " + value, e);
+        }
+        if (parsed < min) {
+            throw new IllegalArgumentException("'" + key + "' must be at least " + min + " but was " + parsed);
+        }
+        return parsed;
+    }
+
+    private static double fractionValue(Properties props, String key, double defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        double parsed;
+        try {
+            parsed = Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for '" + key + "': " + value, e);
+        }
+        if (parsed <= 0 || parsed > 1) {
+            throw new IllegalArgumentException("'" + key + "' must be in (0, 1] but was " + parsed);
+        }
+        return parsed;
+    }
+
+    // Getters
+    public String getMasterHost() { return masterHost; }
+    public int getMasterPort() { return masterPort; }
+    public int getNumWorkers() { return numWorkers; }
+    public int getWorkerThreads() { return workerThreads; }
+    public int getFrameBatchSize() { return frameBatchSize; }
+    public int getFrameQueueCapacity() { return frameQueueCapacity; }
+    public String getVideoInputPath() { return videoInputPath; }
+    public String getVideoOutputPath() { return videoOutputPath; }
+    public boolean isAutoTune() { return autoTune; }
+    public long getAutoTuneIntervalMs() { return autoTuneIntervalMs; }
+    public int getMaxWorkers() { return maxWorkers; }
+    public int getMaxWorkerThreads() { return maxWorkerThreads; }
+    public int getMaxBatchSize() { return maxBatchSize; }
+    public int getMaxQueueCapacity() { return maxQueueCapacity; }
+    public long getMaxLatencyMs() { return maxLatencyMs; }
+    public double getMemoryLimit() { return memoryLimit; }
+    public String getMetricsFile() { return metricsFile; }
+    public int getFaultSlowWorkers() { return faultSlowWorkers; }
+    public int getFaultSlowMs() { return faultSlowMs; }
+    public int getFaultKillWorkers() { return faultKillWorkers; }
+    public int getFaultKillAfterFrames() { return faultKillAfterFrames; }
+    public List<String> getArguments() { return arguments; }
+
+    @Override
+    public String toString() {
+        return String.format("RuntimeConfig[workers=%d, workerThreads=%d, batchSize=%d, queueCapacity=%d, autoTune=%b]",
+                numWorkers, workerThreads, frameBatchSize, frameQueueCapacity, autoTune);
+    }
+}
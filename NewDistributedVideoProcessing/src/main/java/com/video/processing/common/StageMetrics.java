@@ -0,0 +1,110 @@
+package com.video.processing.common;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Collects per-stage latency samples for a job and writes them as a
+ * properties report (frame count, frames/s, latency percentiles, peak RSS).
+ */
+public class StageMetrics {
+    public static final String READ = "read";
+    public static final String ENQUEUE = "enqueue";
+    public static final String QUEUE = "queue";
+    public static final String PROCESS = "process";
+    public static final String ENCODE = "encode";
+
+    public static final double[] PERCENTILES = {50, 90, 99};
+
+    private final Map<String, List<Long>> samples = new TreeMap<>();
+
+    public void record(String stage, long nanos) {
+        List<Long> stageSamples;
+        synchronized (samples) {
+            stageSamples = samples.computeIfAbsent(stage, s -> new ArrayList<>());
+        }
+        synchronized (stageSamples) {
+            stageSamples.add(nanos);
+        }
+    }
+
+    /**
+     * Returns the given percentile of a stage in milliseconds, or -1 if the stage has no samples.
+     */
+    public double percentileMs(String stage, double percentile) {
+        List<Long> sorted;
+        synchronized (samples) {
+            List<Long> stageSamples = samples.get(stage);
+            if (stageSamples == null) {
+                return -1;
+            }
+            synchronized (stageSamples) {
+                sorted = new ArrayList<>(stageSamples);
+            }
+        }
+        if (sorted.isEmpty()) {
+            return -1;
+        }
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index))) / 1e6;
+    }
+
+    public void writeReport(File file, long frames, long elapsedNanos) throws IOException {
+        Properties report = new Properties();
+        report.setProperty("frames", Long.toString(frames));
+        report.setProperty("elapsed.ms", Long.toString(elapsedNanos / 1_000_000));
+        report.setProperty("fps", String.format(Locale.ROOT, "%.3f", elapsedNanos > 0 ? frames * 1e9 / elapsedNanos : 0));
+        report.setProperty("peak.rss.kb", Long.toString(peakRssKb("self")));
+
+        List<String> stages;
+        synchronized (samples) {
+            stages = new ArrayList<>(samples.keySet());
+        }
+        for (String stage : stages) {
+            for (double p : PERCENTILES) {
+                report.setProperty(String.format("stage.%s.p%d.ms", stage, (int) p),
+                        String.format(Locale.ROOT, "%.3f", percentileMs(stage, p)));
+            }
+        }
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            report.store(out, "Stage metrics");
+        }
+    }
+
+    /**
+     * Peak resident set size (VmHWM) of a process in KB, read from
+     * {@code /proc/<pid>/status}. Returns -1 where procfs is unavailable.
+     */
+    public static long peakRssKb(String pid) {
+        Path status = Paths.get("/proc", pid, "status");
+        try {
+            for (String line : Files.readAllLines(status, StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not Linux, or the process has already exited
+        }
+        return -1;
+    }
+}
@@ -9,8 +9,11 @@ import org.bytedeco.javacv.Java2DFrameConverter;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class VideoProcessor {
+    private static final Logger logger = Logger.getLogger(VideoProcessor.class.getName());
     private FFmpegFrameGrabber grabber;
     private Java2DFrameConverter converter;
 
@@ -36,14 +39,13 @@ public class VideoProcessor {
                 frame = grabber.grabImage();
 
                 // Check if we have reached the end of the video stream
-                if (frame.timestamp == 1666666) {
+                if (frame == null) {
                     System.out.println("End of video or invalid frame detected. Exiting loop.");
                     break;  // Exit the loop when the end of the video is reached or an invalid frame is detected
                 }
 
                 // Debugging: Show information about the current frame
-                System.out.println("Received frame with image: " + frame.image);
-                System.out.println("Processing frame with timestamp: " + frame.timestamp);
+                logger.log(Level.FINE, "Received frame with timestamp {0}", frame.timestamp);
 
                 if (frame.image != null) {
                     processor.process(frame.clone());
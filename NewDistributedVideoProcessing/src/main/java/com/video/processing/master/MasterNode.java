@@ -1,8 +1,11 @@
 package com.video.processing.master;
 
-import com.video.processing.common.Config;
+import com.video.processing.common.AutoTuner;
 import com.video.processing.common.BaseFrame;
 import com.video.processing.common.ProcessedFrame;
+import com.video.processing.common.ResizableBlockingQueue;
+import com.video.processing.common.RuntimeConfig;
+import com.video.processing.common.StageMetrics;
 import com.video.processing.common.VideoProcessor;
 import org.bytedeco.ffmpeg.global.avcodec;
 import org.bytedeco.ffmpeg.global.avutil;
@@ -29,50 +32,142 @@ import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class MasterNode {
+    private static final Logger logger = Logger.getLogger(MasterNode.class.getName());
+
+    private final RuntimeConfig config;
     private final ExecutorService executor;
     private final FrameDistributor distributor;
+    private final ResizableBlockingQueue<BaseFrame> frameQueue;
+    private final AutoTuner tuner;
+    private final StageMetrics metrics = new StageMetrics();
+
+    private final List<Future<List<ProcessedFrame>>> futures = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final AtomicInteger workerIds = new AtomicInteger();
+    private volatile int targetWorkers;
+    private volatile int batchSize;
+
+    public MasterNode() throws IOException {
+        this(RuntimeConfig.load());
+    }
 
-    BlockingQueue<BaseFrame> frameQueue = new LinkedBlockingQueue<>(50); // Max 50 frames in memory
-
-    public MasterNode() {
-        this.executor = Executors.newFixedThreadPool(Config.NUM_WORKERS);
+    public MasterNode(RuntimeConfig config) {
+        this.config = config;
+        this.executor = Executors.newCachedThreadPool(); // Grows and shrinks with targetWorkers
         this.distributor = new FrameDistributor();
+        this.frameQueue = new ResizableBlockingQueue<>(config.getFrameQueueCapacity());
+        this.batchSize = config.getFrameBatchSize();
+        this.tuner = config.isAutoTune() ? createTuner(config) : null;
+    }
+
+    private AutoTuner createTuner(RuntimeConfig config) {
+        return new AutoTuner(config)
+                .addKnob(new AutoTuner.Knob("master.workers", 1, config.getMaxWorkers(), false,
+                        () -> targetWorkers, this::setWorkerCount))
+                .addKnob(new AutoTuner.Knob("master.batch.size", 1, config.getMaxBatchSize(), true,
+                        () -> batchSize, value -> batchSize = value))
+                .addKnob(new AutoTuner.Knob("master.queue.capacity", 1, config.getMaxQueueCapacity(), true,
+                        frameQueue::getCapacity, frameQueue::setCapacity));
     }
 
     public void processVideo(String inputFile) throws Exception {
-        // Read and stream frames directly to workers
-        readVideoFile(inputFile);
-        // Start worker threads
-        List<Future<List<ProcessedFrame>>> futures = new ArrayList<>();
-        for (int i = 0; i < Config.NUM_WORKERS; i++) {
-            futures.add(executor.submit(() -> {
-                System.out.println("Worker thread started.");
-                return processFrames(); // processFrames must return a value here, e.g., List<ProcessedFrame>
-            }));
+        logger.log(Level.INFO, "Processing {0} with {1}", new Object[]{inputFile, config});
+        long startNanos = System.nanoTime();
+
+        // Start worker threads before reading so the bounded queue keeps draining
+        setWorkerCount(config.getNumWorkers());
+        if (tuner != null) {
+            tuner.start();
         }
 
-        // Ensure all workers finish processing
-        executor.shutdown();
-        if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
-            executor.shutdownNow();
+        // Read and stream frames directly to workers
+        try {
+            readVideoFile(inputFile);
+        } finally {
+            frameQueue.close(); // Wakes idle workers so they exit once the queue drains
+            if (tuner != null) {
+                tuner.stop();
+            }
         }
 
-        // Collect results
-        List<ProcessedFrame> processedFrames = collectResults(futures);
+        // Collect results once every worker has drained the queue
+        List<ProcessedFrame> processedFrames = collectResults(new ArrayList<>(futures));
+        executor.shutdown();
 
         // Reconstruct video
         reconstructVideo(processedFrames);
+
+        if (config.getMetricsFile() != null) {
+            metrics.writeReport(new File(config.getMetricsFile()), processedFrames.size(), System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Sets the number of frame-processing threads. Surplus threads retire
+     * after finishing their current batch.
+     */
+    synchronized void setWorkerCount(int count) {
+        targetWorkers = count;
+        while (true) {
+            int active = activeWorkers.get();
+            if (active >= count) {
+                return;
+            }
+            if (activeWorkers.compareAndSet(active, active + 1)) {
+                int workerId = workerIds.getAndIncrement();
+                futures.add(executor.submit(() -> {
+                    System.out.println("Worker thread started.");
+                    return processFrames(workerId);
+                }));
+            }
+        }
+    }
+
+    /**
+     * Removes the calling thread for fault injection. The target count drops
+     * with it so the slot is not respawned; the auto-tuner may still grow the
+     * pool again later, as it would after any capacity loss. The last active
+     * thread is never killed, so the reader cannot block forever.
+     */
+    private synchronized boolean killWorker() {
+        if (activeWorkers.get() <= 1) {
+            return false;
+        }
+        targetWorkers = Math.max(1, targetWorkers - 1);
+        activeWorkers.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * Retires the calling thread if more are active than targeted. Guarded by
+     * the same lock as {@link #killWorker()} and {@link #setWorkerCount(int)}
+     * so a kill cannot lower the target while another thread retires against it.
+     */
+    private synchronized boolean retireIfSurplus() {
+        if (activeWorkers.get() <= targetWorkers) {
+            return false;
+        }
+        activeWorkers.decrementAndGet();
+        return true;
     }
 
     private void readVideoFile(String inputFile) throws Exception {
         VideoProcessor processor = new VideoProcessor();
+        AtomicInteger frameNumber = new AtomicInteger();
+        long[] lastReadNanos = {System.nanoTime()};
         processor.extractFrames(inputFile, frame -> {
             try {
-                System.out.println("Reading frame: " + frame.timestamp);
-                frameQueue.put(new BaseFrame(frame, frameQueue.size(), System.currentTimeMillis()));
-                frame.close(); // Immediately release memory after adding to queue
+                long readNanos = System.nanoTime();
+                metrics.record(StageMetrics.READ, readNanos - lastReadNanos[0]);
+                logger.log(Level.FINE, "Reading frame: {0}", frame.timestamp);
+                frameQueue.put(new BaseFrame(frame, frameNumber.getAndIncrement(), System.currentTimeMillis()));
+                lastReadNanos[0] = System.nanoTime();
+                metrics.record(StageMetrics.ENQUEUE, lastReadNanos[0] - readNanos);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
@@ -132,7 +227,7 @@ public class MasterNode {
         Collections.sort(sortedFrames, Comparator.comparingInt(ProcessedFrame::getFrameNumber));
 
         // Create output directory
-        File outputDir = new File(Config.VIDEO_OUTPUT_PATH);
+        File outputDir = new File(config.getVideoOutputPath());
         if (!outputDir.exists()) {
             outputDir.mkdirs();
         }
@@ -142,8 +237,8 @@ public class MasterNode {
         Frame inputFrame = firstFrame.getImage();
 
         // Output file
-        String outputFilePath = Config.VIDEO_OUTPUT_PATH + "processed_" +
-                new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()) + ".mp4";
+        String outputFilePath = new File(outputDir, "processed_" +
+                new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()) + ".mp4").getPath();
 
         // FFmpegFrameRecorder setup
         FFmpegFrameRecorder recorder = new FFmpegFrameRecorder(outputFilePath, inputFrame.imageWidth, inputFrame.imageHeight);
@@ -161,6 +256,7 @@ public class MasterNode {
 
             // Record frames
             for (ProcessedFrame frame : sortedFrames) {
+                long encodeStart = System.nanoTime();
                 Frame image = frame.getImage();
                 if (image == null) {
                     System.err.println("Skipping null frame at position " + frame.getFrameNumber());
@@ -191,7 +287,7 @@ public class MasterNode {
 
                 try {
                     recorder.record(convertedFrame);
-                    System.out.println("Recorded frame " + frame.getFrameNumber());
+                    logger.log(Level.FINE, "Recorded frame {0}", frame.getFrameNumber());
                 } catch (Exception e) {
                     System.err.println("Error recording frame " + frame.getFrameNumber() + ": " + e.getMessage());
                     e.printStackTrace();
@@ -206,6 +302,7 @@ public class MasterNode {
                         bufferedImage.flush();
                     }
                 }
+                metrics.record(StageMetrics.ENCODE, System.nanoTime() - encodeStart);
             }
 
         } finally {
@@ -245,22 +342,53 @@ public class MasterNode {
 
 
 
-    private List<ProcessedFrame> processFrames() {
+    private List<ProcessedFrame> processFrames(int workerId) {
         List<ProcessedFrame> processedFrames = new ArrayList<>();
+        List<BaseFrame> batch = new ArrayList<>();
+
+        // Fault injection for benchmarking: the first workers are killed, the next ones slowed down
+        boolean killed = workerId < config.getFaultKillWorkers();
+        boolean slowed = !killed && workerId < config.getFaultKillWorkers() + config.getFaultSlowWorkers();
         try {
-            while (true) {
-                System.out.println("Processing frame.. " + frameQueue.size());
-                BaseFrame frame = frameQueue.poll(2, TimeUnit.SECONDS); // Timeout prevents deadlock
-                if (frame == null) break;
+            while (!retireIfSurplus()) {
+                if (killed && processedFrames.size() >= config.getFaultKillAfterFrames() && killWorker()) {
+                    logger.log(Level.WARNING, "Fault injection: killed worker {0} after {1} frames",
+                            new Object[]{workerId, processedFrames.size()});
+                    break;
+                }
 
-                // Process the frame
-                String processingResult = processFrame(frame);
-                long processingTimeMs = System.currentTimeMillis();
+                BaseFrame frame = frameQueue.poll(2, TimeUnit.SECONDS); // Timeout lets retire/kill checks run
+                if (frame == null) {
+                    if (frameQueue.isDrained()) {
+                        activeWorkers.decrementAndGet();
+                        break;
+                    }
+                    continue;
+                }
 
-                processedFrames.add(new ProcessedFrame(frame, processingResult, processingTimeMs));
-                System.out.println("after.. " + processedFrames);
+                // Take the rest of the batch without blocking
+                batch.clear();
+                batch.add(frame);
+                frameQueue.drainTo(batch, batchSize - 1);
+
+                for (BaseFrame queued : batch) {
+                    metrics.record(StageMetrics.QUEUE, (System.currentTimeMillis() - queued.getTimestamp()) * 1_000_000);
+                    long processStart = System.nanoTime();
+                    if (slowed) {
+                        Thread.sleep(config.getFaultSlowMs());
+                    }
+                    String processingResult = processFrame(queued);
+                    metrics.record(StageMetrics.PROCESS, System.nanoTime() - processStart);
+                    long processingTimeMs = System.currentTimeMillis();
+
+                    processedFrames.add(new ProcessedFrame(queued, processingResult, processingTimeMs));
+                    if (tuner != null) {
+                        tuner.recordFrame(processingTimeMs - queued.getTimestamp());
+                    }
+                }
             }
         } catch (InterruptedException e) {
+            activeWorkers.decrementAndGet();
             Thread.currentThread().interrupt();
         }
         return processedFrames;
@@ -269,15 +397,20 @@ public class MasterNode {
     private String processFrame(BaseFrame frame) {
         // Implement your frame processing logic here
         // For example: apply filters, detect objects, etc.
-        System.out.println("Processing frame " + frame.getFrameNumber());
+        logger.log(Level.FINE, "Processing frame {0}", frame.getFrameNumber());
         return "Processed frame " + frame.getFrameNumber();
     }
 
     public static void main(String[] args) {
         try {
             System.loadLibrary(Core.NATIVE_LIBRARY_NAME);
-            MasterNode masterNode = new MasterNode();
-            masterNode.processVideo("C:\\Users\\mthok\\Downloads\\Video\\1de84bafc93642b29c4e86f3dd24cba1.mp4"); // Replace with your input file
+            RuntimeConfig config = RuntimeConfig.load(args);
+            if (config.getArguments().isEmpty()) {
+                System.err.println("Usage: MasterNode [--key=value ...] <input-video>");
+                return;
+            }
+            MasterNode masterNode = new MasterNode(config);
+            masterNode.processVideo(config.getArguments().get(0));
         } catch (Exception e) {
             e.printStackTrace();
         }
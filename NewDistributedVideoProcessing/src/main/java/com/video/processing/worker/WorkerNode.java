@@ -1,11 +1,13 @@
 package com.video.processing.worker;
 
+import com.video.processing.common.AutoTuner;
 import com.video.processing.common.BaseFrame;
 import com.video.processing.common.ProcessedFrame;
-import com.video.processing.common.Config;
+import com.video.processing.common.RuntimeConfig;
 import org.bytedeco.javacv.Frame;
 
 import java.awt.image.BufferedImage;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.*;
@@ -15,13 +17,36 @@ import java.util.logging.Level;
 import java.awt.Color;
 
 public class WorkerNode {
-    private final ExecutorService threadPool;
+    private final ThreadPoolExecutor threadPool;
+    private final AutoTuner tuner;
     private static final Logger logger = Logger.getLogger(WorkerNode.class.getName());
 
     public WorkerNode(int numThreads) {
-        this.threadPool = Executors.newFixedThreadPool(numThreads);
+        this(numThreads, null);
+    }
+
+    /**
+     * With {@code autotune} enabled the thread pool size becomes a tuning knob.
+     * The tuner only starts once {@link #processFrames(List)} receives work, and
+     * nothing dispatches frames to WorkerNode yet (MasterNode processes them
+     * in-process), so until then the knob is inert.
+     */
+    public WorkerNode(RuntimeConfig config) {
+        this(config.getWorkerThreads(), config);
+    }
+
+    private WorkerNode(int numThreads, RuntimeConfig config) {
+        this.threadPool = (ThreadPoolExecutor) Executors.newFixedThreadPool(numThreads);
         logger.log(Level.INFO, "Worker node initialized with {0} threads", numThreads);
 
+        if (config != null && config.isAutoTune()) {
+            this.tuner = new AutoTuner(config)
+                    .addKnob(new AutoTuner.Knob("worker.threads", 1, config.getMaxWorkerThreads(), false,
+                            threadPool::getMaximumPoolSize, this::setThreadCount));
+        } else {
+            this.tuner = null;
+        }
+
         // Add shutdown hook for graceful termination
         Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
     }
@@ -32,10 +57,21 @@ public class WorkerNode {
             return new ArrayList<>();
         }
 
+        if (tuner != null) {
+            tuner.start(); // No-op once running; an idle node has nothing to measure
+        }
+
         List<Future<ProcessedFrame>> futures = new ArrayList<>();
 
         for (BaseFrame frame : frames) {
-            futures.add(threadPool.submit(() -> processFrame(frame)));
+            long submittedAt = System.currentTimeMillis();
+            futures.add(threadPool.submit(() -> {
+                ProcessedFrame processed = processFrame(frame);
+                if (tuner != null) {
+                    tuner.recordFrame(System.currentTimeMillis() - submittedAt);
+                }
+                return processed;
+            }));
         }
 
         return futures.stream()
@@ -71,6 +107,20 @@ public class WorkerNode {
         }
     }
 
+    /**
+     * Resizes the thread pool. Running tasks are not interrupted when shrinking.
+     */
+    public void setThreadCount(int numThreads) {
+        // Order matters: core size may never exceed maximum size
+        if (numThreads > threadPool.getMaximumPoolSize()) {
+            threadPool.setMaximumPoolSize(numThreads);
+            threadPool.setCorePoolSize(numThreads);
+        } else {
+            threadPool.setCorePoolSize(numThreads);
+            threadPool.setMaximumPoolSize(numThreads);
+        }
+    }
+
     private ProcessedFrame getProcessedFrame(Future<ProcessedFrame> future) {
         try {
             return future.get();
@@ -98,6 +148,9 @@ public class WorkerNode {
 
     private void shutdown() {
         logger.log(Level.INFO, "Initiating worker node shutdown...");
+        if (tuner != null) {
+            tuner.stop();
+        }
         threadPool.shutdown();
 
         try {
@@ -114,8 +167,8 @@ public class WorkerNode {
         logger.log(Level.INFO, "Worker node shutdown completed");
     }
 
-    public static void main(String[] args) {
-        WorkerNode worker = new WorkerNode(4);
+    public static void main(String[] args) throws IOException {
+        WorkerNode worker = new WorkerNode(RuntimeConfig.load(args));
         worker.start(); // Call start() instead of just creating the node
     }
 
@@ -0,0 +1,32 @@
+package com.video.processing.bench;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+
+public class ClusterHarnessTest {
+
+    private static ClusterHarness harness(String workers) {
+        Properties options = new Properties();
+        options.setProperty("workers", workers);
+        return new ClusterHarness(options);
+    }
+
+    @Test
+    public void parsesWorkerCountsInGivenOrder() {
+        assertEquals(List.of(4, 2, 1), harness("4, 2,1").workerCounts());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroWorkers() {
+        harness("1,0").workerCounts();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMalformedWorkerCount() {
+        harness("1,two").workerCounts();
+    }
+}
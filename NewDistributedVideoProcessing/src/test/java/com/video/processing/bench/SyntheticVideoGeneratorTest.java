@@ -0,0 +1,34 @@
+package com.video.processing.bench;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SyntheticVideoGeneratorTest {
+
+    @Test
+    public void bounceKeepsPositionsInsideRange() {
+        assertEquals(0, SyntheticVideoGenerator.bounce(0, 10));
+        assertEquals(7, SyntheticVideoGenerator.bounce(7, 10));
+        assertEquals(10, SyntheticVideoGenerator.bounce(10, 10));
+    }
+
+    @Test
+    public void bounceReflectsOffEdges() {
+        assertEquals(7, SyntheticVideoGenerator.bounce(13, 10));  // Off the far edge
+        assertEquals(0, SyntheticVideoGenerator.bounce(20, 10));  // Full period
+        assertEquals(3, SyntheticVideoGenerator.bounce(-3, 10));  // Off the near edge
+        assertEquals(3, SyntheticVideoGenerator.bounce(23, 10));  // Second period
+    }
+
+    @Test
+    public void bounceWithNoRoomPinsToOrigin() {
+        assertEquals(0, SyntheticVideoGenerator.bounce(5, 0));
+        assertEquals(0, SyntheticVideoGenerator.bounce(-5, -4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOddResolution() {
+        new SyntheticVideoGenerator(641, 360, 10, 30, 1);
+    }
+}
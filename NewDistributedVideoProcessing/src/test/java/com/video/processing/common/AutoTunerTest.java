@@ -0,0 +1,113 @@
+package com.video.processing.common;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AutoTunerTest {
+    private static final double MEMORY_LIMIT = 0.75;
+    private static final double LOW_MEMORY = 0.1;
+
+    private final int[] workers = {4};
+    private final int[] queue = {8};
+
+    private AutoTuner tuner(long maxLatencyMs, AutoTuner.Knob... knobs) {
+        AutoTuner tuner = new AutoTuner(1000, MEMORY_LIMIT, maxLatencyMs, () -> LOW_MEMORY);
+        for (AutoTuner.Knob knob : knobs) {
+            tuner.addKnob(knob);
+        }
+        return tuner;
+    }
+
+    private AutoTuner.Knob workersKnob() {
+        return new AutoTuner.Knob("workers", 1, 16, false, () -> workers[0], v -> workers[0] = v);
+    }
+
+    private AutoTuner.Knob queueKnob() {
+        return new AutoTuner.Knob("queue", 1, 64, true, () -> queue[0], v -> queue[0] = v);
+    }
+
+    @Test
+    public void keepsStepWhenThroughputImproves() {
+        AutoTuner tuner = tuner(0, workersKnob());
+
+        tuner.evaluate(100, 100, 5, LOW_MEMORY); // Baseline, then first step
+        assertEquals(5, workers[0]);
+
+        tuner.evaluate(100, 150, 5, LOW_MEMORY); // Gain: keep and climb further
+        assertEquals(6, workers[0]);
+    }
+
+    @Test
+    public void revertsStepWithoutGainAndReversesDirection() {
+        AutoTuner tuner = tuner(0, workersKnob());
+
+        tuner.evaluate(100, 100, 5, LOW_MEMORY);
+        assertEquals(5, workers[0]);
+
+        tuner.evaluate(100, 100, 5, LOW_MEMORY); // No gain: revert
+        assertEquals(4, workers[0]);
+
+        tuner.evaluate(100, 100, 5, LOW_MEMORY); // Re-measure, then step the other way
+        assertEquals(3, workers[0]);
+    }
+
+    @Test
+    public void ignoresIntervalsWithoutFrames() {
+        AutoTuner tuner = tuner(0, workersKnob());
+
+        tuner.evaluate(0, 0, 0, LOW_MEMORY);
+        assertEquals(4, workers[0]);
+    }
+
+    @Test
+    public void memoryBackOffStopsAtFloor() {
+        AutoTuner tuner = tuner(0, queueKnob());
+        queue[0] = 32; // Grown past the value at registration (floor 8)
+
+        tuner.evaluate(100, 100, 5, 0.8);
+        assertEquals(16, queue[0]);
+
+        tuner.evaluate(100, 100, 5, 0.9);
+        assertEquals(8, queue[0]);
+
+        tuner.evaluate(0, 0, 5, 0.99); // No frames, so only the back-off can act
+        assertEquals(8, queue[0]);
+    }
+
+    @Test
+    public void backsOffOnlyWhenMemoryGrows() {
+        AutoTuner tuner = tuner(0, queueKnob());
+        queue[0] = 64;
+
+        tuner.evaluate(100, 100, 5, 0.8);
+        assertEquals(32, queue[0]);
+
+        // Same usage again: no further halving, hill-climbing resumes (downwards only)
+        tuner.evaluate(100, 100, 5, 0.8);
+        assertEquals(24, queue[0]);
+    }
+
+    @Test
+    public void memoryBoundKnobsDoNotGrowUnderPressure() {
+        AutoTuner tuner = tuner(0, workersKnob(), queueKnob());
+
+        double throughput = 100;
+        for (int i = 0; i < 20; i++) {
+            throughput *= 1.5;
+            tuner.evaluate(100, throughput, 5, 0.8);
+            assertTrue("Queue grew under memory pressure", queue[0] <= 8);
+        }
+    }
+
+    @Test
+    public void latencyCeilingHalvesMemoryBoundKnobs() {
+        AutoTuner tuner = tuner(50, workersKnob(), queueKnob());
+        queue[0] = 32;
+
+        tuner.evaluate(100, 100, 80, LOW_MEMORY);
+        assertEquals(16, queue[0]);
+        assertEquals(4, workers[0]);
+    }
+}
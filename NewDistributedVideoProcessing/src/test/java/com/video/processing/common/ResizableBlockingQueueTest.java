@@ -0,0 +1,159 @@
+package com.video.processing.common;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResizableBlockingQueueTest {
+
+    @Test
+    public void pollReturnsItemsInOrder() throws Exception {
+        ResizableBlockingQueue<Integer> queue = new ResizableBlockingQueue<>(3);
+        queue.put(1);
+        queue.put(2);
+        queue.put(3);
+
+        assertEquals(Integer.valueOf(1), queue.poll(1, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(2), queue.poll(1, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(3), queue.poll(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void pollTimesOutWhenEmpty() throws Exception {
+        ResizableBlockingQueue<Integer> queue = new ResizableBlockingQueue<>(1);
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void drainToRespectsMaxElements() throws Exception {
+        ResizableBlockingQueue<Integer> queue = new ResizableBlockingQueue<>(5);
+        for (int i = 0; i < 5; i++) {
+            queue.put(i);
+        }
+
+        List<Integer> target = new ArrayList<>();
+        assertEquals(2, queue.drainTo(target, 2));
+        assertEquals(List.of(0, 1), target);
+        assertEquals(3, queue.size());
+
+        assertEquals(0, queue.drainTo(target, 0));
+        assertEquals(3, queue.drainTo(target, 10));
+        assertEquals(0, queue.size());
+    }
+
+    @Test(timeout = 5000)
+    public void growingUnblocksWaitingProducer() throws Exception {
+        ResizableBlockingQueue<Integer> queue = new ResizableBlockingQueue<>(1);
+        queue.put(1);
+
+        Thread producer = startProducer(queue, 2);
+        awaitBlocked(producer);
+
+        queue.setCapacity(2);
+        producer.join(1000);
+        assertFalse(producer.isAlive());
+        assertEquals(2, queue.size());
+    }
+
+    @Test(timeout = 5000)
+    public void shrinkingWhileFullKeepsItemsAndBlocksProducers() throws Exception {
+        ResizableBlockingQueue<Integer> queue = new ResizableBlockingQueue<>(3);
+        queue.put(1);
+        queue.put(2);
+        queue.put(3);
+
+        queue.setCapacity(1);
+        assertEquals(3, queue.size());
+
+        Thread producer = startProducer(queue, 4);
+        awaitBlocked(producer);
+
+        // Still at or above the new capacity after two polls
+        queue.poll(1, TimeUnit.SECONDS);
+        queue.poll(1, TimeUnit.SECONDS);
+        awaitBlocked(producer);
+
+        assertEquals(Integer.valueOf(3), queue.poll(1, TimeUnit.SECONDS));
+        producer.join(1000);
+        assertFalse(producer.isAlive());
+        assertEquals(Integer.valueOf(4), queue.poll(1, TimeUnit.SECONDS));
+    }
+
+    @Test(timeout = 5000)
+    public void closeWakesWaitingConsumer() throws Exception {
+        ResizableBlockingQueue<Integer> queue = new ResizableBlockingQueue<>(1);
+        Integer[] polled = {0};
+        Thread consumer = new Thread(() -> {
+            try {
+                polled[0] = queue.poll(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+        awaitWaiting(consumer);
+
+        queue.close();
+        consumer.join(1000);
+        assertFalse(consumer.isAlive());
+        assertNull(polled[0]);
+        assertTrue(queue.isDrained());
+    }
+
+    @Test
+    public void closedQueueStillHandsOutRemainingItems() throws Exception {
+        ResizableBlockingQueue<Integer> queue = new ResizableBlockingQueue<>(2);
+        queue.put(1);
+        queue.close();
+
+        assertFalse(queue.isDrained());
+        assertEquals(Integer.valueOf(1), queue.poll(1, TimeUnit.MINUTES));
+        assertNull(queue.poll(1, TimeUnit.MINUTES));
+        assertTrue(queue.isDrained());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void closedQueueRejectsPut() throws Exception {
+        ResizableBlockingQueue<Integer> queue = new ResizableBlockingQueue<>(1);
+        queue.close();
+        queue.put(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveCapacity() {
+        new ResizableBlockingQueue<Integer>(1).setCapacity(0);
+    }
+
+    private static Thread startProducer(ResizableBlockingQueue<Integer> queue, int item) {
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(item);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        return producer;
+    }
+
+    private static void awaitBlocked(Thread thread) throws InterruptedException {
+        for (int i = 0; i < 100 && thread.getState() != Thread.State.WAITING; i++) {
+            Thread.sleep(10);
+        }
+        assertTrue("Producer should be blocked", thread.getState() == Thread.State.WAITING);
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        for (int i = 0; i < 100 && thread.getState() != Thread.State.TIMED_WAITING; i++) {
+            Thread.sleep(10);
+        }
+        assertTrue("Consumer should be waiting", thread.getState() == Thread.State.TIMED_WAITING);
+    }
+}
@@ -0,0 +1,94 @@
+package com.video.processing.common;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RuntimeConfigTest {
+
+    @After
+    public void clearSystemProperties() {
+        System.clearProperty("video.batch.size");
+        System.clearProperty("video.queue.capacity");
+    }
+
+    @Test
+    public void usesDefaultsWithoutOverrides() throws Exception {
+        RuntimeConfig config = RuntimeConfig.load(new String[]{"--config=" + writeConfig("")});
+
+        assertEquals(Config.NUM_WORKERS, config.getNumWorkers());
+        assertEquals(Config.WORKER_THREADS, config.getWorkerThreads());
+        assertEquals(Config.FRAME_QUEUE_CAPACITY, config.getFrameQueueCapacity());
+        assertEquals(1, config.getFrameBatchSize());
+        assertFalse(config.isAutoTune());
+    }
+
+    @Test
+    public void appliesFileThenSystemPropertiesThenArguments() throws Exception {
+        File file = writeConfig("workers=2\nbatch.size=3\nqueue.capacity=7\n");
+        System.setProperty("video.batch.size", "5");
+        System.setProperty("video.queue.capacity", "9");
+
+        RuntimeConfig config = RuntimeConfig.load(new String[]{"--config=" + file, "--queue.capacity=11"});
+
+        assertEquals(2, config.getNumWorkers());
+        assertEquals(5, config.getFrameBatchSize());
+        assertEquals(11, config.getFrameQueueCapacity());
+    }
+
+    @Test
+    public void separatesFlagsFromPositionalArguments() throws Exception {
+        RuntimeConfig config = RuntimeConfig.load(new String[]{"--config=" + writeConfig(""), "--autotune", "in.mp4"});
+
+        assertTrue(config.isAutoTune());
+        assertEquals(List.of("in.mp4"), config.getArguments());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonInteger() throws Exception {
+        RuntimeConfig.load(new String[]{"--config=" + writeConfig(""), "--workers=many"});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsValueBelowMinimum() throws Exception {
+        RuntimeConfig.load(new String[]{"--config=" + writeConfig(""), "--queue.capacity=0"});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTuningCeilingBelowStartValue() throws Exception {
+        RuntimeConfig.load(new String[]{"--config=" + writeConfig(""), "--workers=4", "--autotune.max.workers=2"});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMemoryLimitOutOfRange() throws Exception {
+        RuntimeConfig.load(new String[]{"--config=" + writeConfig(""), "--autotune.memory.limit=1.5"});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsKillingEveryWorker() throws Exception {
+        RuntimeConfig.load(new String[]{"--config=" + writeConfig(""), "--workers=2", "--fault.kill.workers=2"});
+    }
+
+    @Test
+    public void allowsKillingAllButOneWorker() throws Exception {
+        RuntimeConfig config = RuntimeConfig.load(new String[]{"--config=" + writeConfig(""), "--workers=2", "--fault.kill.workers=1"});
+        assertEquals(1, config.getFaultKillWorkers());
+    }
+
+    private static File writeConfig(String contents) throws IOException {
+        File file = File.createTempFile("video-processing", ".properties");
+        file.deleteOnExit();
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(contents);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,41 @@
+package com.video.processing.common;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class StageMetricsTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void computesNearestRankPercentiles() {
+        StageMetrics metrics = new StageMetrics();
+        // 1..10 ms, recorded out of order
+        for (int ms : new int[]{7, 3, 10, 1, 5, 9, 2, 8, 4, 6}) {
+            metrics.record(StageMetrics.PROCESS, ms * 1_000_000L);
+        }
+
+        assertEquals(5.0, metrics.percentileMs(StageMetrics.PROCESS, 50), DELTA);
+        assertEquals(9.0, metrics.percentileMs(StageMetrics.PROCESS, 90), DELTA);
+        assertEquals(10.0, metrics.percentileMs(StageMetrics.PROCESS, 99), DELTA);
+    }
+
+    @Test
+    public void singleSampleIsEveryPercentile() {
+        StageMetrics metrics = new StageMetrics();
+        metrics.record(StageMetrics.READ, 2_500_000L);
+
+        for (double p : StageMetrics.PERCENTILES) {
+            assertEquals(2.5, metrics.percentileMs(StageMetrics.READ, p), DELTA);
+        }
+        assertEquals(2.5, metrics.percentileMs(StageMetrics.READ, 0), DELTA);
+    }
+
+    @Test
+    public void stageWithoutSamplesReportsMinusOne() {
+        StageMetrics metrics = new StageMetrics();
+        metrics.record(StageMetrics.READ, 1_000_000L);
+
+        assertEquals(-1.0, metrics.percentileMs(StageMetrics.ENCODE, 50), DELTA);
+    }
+}